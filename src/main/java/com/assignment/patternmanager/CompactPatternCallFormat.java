@@ -0,0 +1,185 @@
+package com.assignment.patternmanager;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Describes the compact binary format for pattern call tuples and converts
+ * between it and the text format written by
+ * {@link PatternManager#storePatternCallsToFile(String)}.
+ *
+ * <p>
+ * A file starts with the magic bytes {@code PMCF}, a version byte and a flags
+ * byte. If the {@link #FLAG_DEFLATE} flag is set, everything after the header
+ * is compressed as a single deflate stream rather than block by block, so the
+ * compressor can exploit repetition across blocks. The body is a sequence of
+ * blocks of at most {@link #BLOCK_SIZE} records, terminated by an empty block.
+ * Each block holds its record count, the bit-packed {@code called} flags, and
+ * then per record:
+ * <ul>
+ * <li>the id as a zig-zag varint delta from the previous id,</li>
+ * <li>the name as a varint dictionary code, where code 0 is followed by a new
+ * name literal,</li>
+ * <li>the pattern file as the varint length of the prefix shared with the
+ * previous path followed by the remaining suffix.</li>
+ * </ul>
+ * Strings are stored as a varint of the UTF-8 byte length plus one followed by
+ * the UTF-8 bytes, where a varint of 0 marks a null name or pattern file. A
+ * null pattern file is written with a shared prefix length of 0 and does not
+ * replace the previous path. The dictionary and the previous id/path carry over
+ * between blocks, so only one block is ever held in memory.
+ */
+public final class CompactPatternCallFormat {
+	static final byte[] MAGIC = { 'P', 'M', 'C', 'F' };
+	static final int VERSION = 1;
+	static final int FLAG_DEFLATE = 1;
+	static final int BLOCK_SIZE = 128;
+	static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+	private CompactPatternCallFormat() {
+	}
+
+	/**
+	 * Converts a text tuple file to the compact format. Invalid lines are
+	 * skipped in the same way as {@link PatternManager#readPatternCallsFromFile}.
+	 *
+	 * @param textFilePath    The path of the text tuple file to read.
+	 * @param compactFilePath The path of the compact file to write.
+	 * @param compress        Whether to compress the encoded records as one
+	 *                        deflate stream.
+	 * @throws IOException If either file cannot be read or written.
+	 */
+	public static void textToCompact(String textFilePath, String compactFilePath, boolean compress)
+			throws IOException {
+		try (BufferedReader reader = PatternManager.openTextFile(textFilePath);
+				CompactPatternCallWriter writer = new CompactPatternCallWriter(
+						new BufferedOutputStream(new FileOutputStream(compactFilePath)), compress)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				PatternCall patternCall = PatternManager.parsePatternCall(line);
+				if (patternCall != null) {
+					writer.write(patternCall);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converts a compact file back to the text tuple format.
+	 *
+	 * @param compactFilePath The path of the compact file to read.
+	 * @param textFilePath    The path of the text tuple file to write.
+	 * @throws IOException If either file cannot be read or written, or the
+	 *                     compact file is malformed.
+	 */
+	public static void compactToText(String compactFilePath, String textFilePath) throws IOException {
+		try (CompactPatternCallReader reader = new CompactPatternCallReader(new FileInputStream(compactFilePath));
+				PrintWriter writer = new PrintWriter(
+						new BufferedWriter(new FileWriter(textFilePath, StandardCharsets.UTF_8)))) {
+			PatternCall patternCall;
+			while ((patternCall = reader.read()) != null) {
+				writer.println(PatternManager.formatPatternCall(patternCall));
+			}
+			if (writer.checkError()) {
+				throw new IOException("Error writing pattern calls to " + textFilePath);
+			}
+		}
+	}
+
+	static long zigZagEncode(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	static long zigZagDecode(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void writeVarLong(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	static long readVarLong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Unexpected end of compact pattern call stream");
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint in compact pattern call stream");
+	}
+
+	/**
+	 * Reads a varint that must lie within {@code [0, max]}.
+	 */
+	static int readVarInt(InputStream in, int max, String what) throws IOException {
+		long value = readVarLong(in);
+		if (value < 0 || value > max) {
+			throw new IOException("Invalid " + what + " in compact pattern call stream: " + value);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Writes a string that may be null.
+	 */
+	static void writeString(OutputStream out, String value) throws IOException {
+		if (value == null) {
+			writeVarLong(out, 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length + 1L);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeString}, which may be null.
+	 */
+	static String readString(InputStream in) throws IOException {
+		int encodedLength = readVarInt(in, Integer.MAX_VALUE - 7, "string length");
+		if (encodedLength == 0) {
+			return null;
+		}
+		int length = encodedLength - 1;
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length != length) {
+			throw new EOFException("Unexpected end of compact pattern call stream");
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the length of the common prefix of two strings, never splitting a
+	 * surrogate pair so the suffix stays valid UTF-16.
+	 */
+	static int sharedPrefixLength(String previous, String current) {
+		int max = Math.min(previous.length(), current.length());
+		int length = 0;
+		while (length < max && previous.charAt(length) == current.charAt(length)) {
+			length++;
+		}
+		if (length > 0 && Character.isHighSurrogate(current.charAt(length - 1))) {
+			length--;
+		}
+		return length;
+	}
+}
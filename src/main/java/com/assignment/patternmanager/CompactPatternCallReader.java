@@ -0,0 +1,126 @@
+package com.assignment.patternmanager;
+
+import static com.assignment.patternmanager.CompactPatternCallFormat.BLOCK_SIZE;
+import static com.assignment.patternmanager.CompactPatternCallFormat.FLAG_DEFLATE;
+import static com.assignment.patternmanager.CompactPatternCallFormat.MAGIC;
+import static com.assignment.patternmanager.CompactPatternCallFormat.MAX_DICTIONARY_SIZE;
+import static com.assignment.patternmanager.CompactPatternCallFormat.VERSION;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streams pattern calls from an input stream in the format described in
+ * {@link CompactPatternCallFormat}. Only the current block's flags and the name
+ * dictionary are held in memory.
+ */
+public class CompactPatternCallReader implements Closeable {
+	private final InputStream in;
+	private final byte[] calledFlags = new byte[(BLOCK_SIZE + 7) / 8];
+	private final List<String> names = new ArrayList<>();
+	private int blockLength;
+	private int blockPosition;
+	private int previousId;
+	private String previousPatternFile = "";
+	private boolean finished;
+
+	/**
+	 * Constructor for creating a CompactPatternCallReader and reading the file
+	 * header.
+	 *
+	 * @param in The stream to read from. It is closed when this reader is closed.
+	 * @throws IOException If the header is missing or not supported.
+	 */
+	public CompactPatternCallReader(InputStream in) throws IOException {
+		InputStream raw = new BufferedInputStream(in, 8192);
+		try {
+			byte[] magic = raw.readNBytes(MAGIC.length);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException("Not a compact pattern call stream");
+			}
+			int version = raw.read();
+			if (version != VERSION) {
+				throw new IOException("Unsupported compact pattern call version: " + version);
+			}
+			int flags = raw.read();
+			if (flags < 0 || (flags & ~FLAG_DEFLATE) != 0) {
+				throw new IOException("Unsupported compact pattern call flags: " + flags);
+			}
+			this.in = (flags & FLAG_DEFLATE) != 0 ? new BufferedInputStream(new InflaterInputStream(raw), 8192) : raw;
+		} catch (IOException e) {
+			raw.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next pattern call from the stream.
+	 *
+	 * @return The next PatternCall, or null at the end of the stream.
+	 * @throws IOException If the stream is truncated or malformed.
+	 */
+	public PatternCall read() throws IOException {
+		if (blockPosition == blockLength) {
+			if (finished || !readBlockHeader()) {
+				return null;
+			}
+		}
+		boolean called = (calledFlags[blockPosition >> 3] & (1 << (blockPosition & 7))) != 0;
+		blockPosition++;
+
+		int id = (int) (previousId + CompactPatternCallFormat.zigZagDecode(CompactPatternCallFormat.readVarLong(in)));
+		previousId = id;
+
+		String name;
+		int code = CompactPatternCallFormat.readVarInt(in, names.size(), "name code");
+		if (code == 0) {
+			name = CompactPatternCallFormat.readString(in);
+			if (names.size() < MAX_DICTIONARY_SIZE) {
+				names.add(name);
+			}
+		} else {
+			name = names.get(code - 1);
+		}
+
+		int shared = CompactPatternCallFormat.readVarInt(in, previousPatternFile.length(), "path prefix length");
+		String suffix = CompactPatternCallFormat.readString(in);
+		String patternFile;
+		if (suffix == null) {
+			if (shared != 0) {
+				throw new IOException("Invalid null path with shared prefix in compact pattern call stream");
+			}
+			patternFile = null;
+		} else {
+			patternFile = previousPatternFile.substring(0, shared) + suffix;
+			previousPatternFile = patternFile;
+		}
+
+		return new PatternCall(id, name, patternFile, called);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private boolean readBlockHeader() throws IOException {
+		blockLength = CompactPatternCallFormat.readVarInt(in, BLOCK_SIZE, "block length");
+		blockPosition = 0;
+		if (blockLength == 0) {
+			finished = true;
+			return false;
+		}
+		int flagBytes = (blockLength + 7) / 8;
+		if (in.readNBytes(calledFlags, 0, flagBytes) != flagBytes) {
+			throw new EOFException("Unexpected end of compact pattern call stream");
+		}
+		return true;
+	}
+}
@@ -0,0 +1,157 @@
+package com.assignment.patternmanager;
+
+import static com.assignment.patternmanager.CompactPatternCallFormat.BLOCK_SIZE;
+import static com.assignment.patternmanager.CompactPatternCallFormat.FLAG_DEFLATE;
+import static com.assignment.patternmanager.CompactPatternCallFormat.MAGIC;
+import static com.assignment.patternmanager.CompactPatternCallFormat.MAX_DICTIONARY_SIZE;
+import static com.assignment.patternmanager.CompactPatternCallFormat.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams pattern calls to an output stream in the format described in
+ * {@link CompactPatternCallFormat}. Only the current block of records and the
+ * name dictionary are held in memory.
+ */
+public class CompactPatternCallWriter implements Closeable {
+	private final OutputStream out;
+	private final PatternCall[] block = new PatternCall[BLOCK_SIZE];
+	private final Map<String, Integer> nameCodes = new HashMap<>();
+	private int blockLength;
+	private int previousId;
+	private String previousPatternFile = "";
+	private boolean closed;
+	private boolean failed;
+
+	/**
+	 * Constructor for creating a CompactPatternCallWriter and writing the file
+	 * header.
+	 *
+	 * @param out      The stream to write to. It is closed when this writer is
+	 *                 closed.
+	 * @param compress Whether to compress the encoded records as one deflate
+	 *                 stream.
+	 * @throws IOException If the header cannot be written. The stream is closed
+	 *                     in that case.
+	 */
+	public CompactPatternCallWriter(OutputStream out, boolean compress) throws IOException {
+		try {
+			out.write(MAGIC);
+			out.write(VERSION);
+			out.write(compress ? FLAG_DEFLATE : 0);
+		} catch (IOException e) {
+			try {
+				out.close();
+			} catch (IOException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+		this.out = new BufferedOutputStream(compress ? new DeflaterOutputStream(out) : out, 8192);
+	}
+
+	/**
+	 * Appends a pattern call to the stream.
+	 *
+	 * @param patternCall The pattern call to write. Its name and pattern file
+	 *                    may be null.
+	 * @throws IOException If the encoded block cannot be written, or an earlier
+	 *                     write failed.
+	 */
+	public void write(PatternCall patternCall) throws IOException {
+		if (closed) {
+			throw new IOException("Writer is closed");
+		}
+		if (failed) {
+			throw new IOException("Writer failed on an earlier write");
+		}
+		block[blockLength++] = patternCall;
+		if (blockLength == BLOCK_SIZE) {
+			flushBlock();
+		}
+	}
+
+	/**
+	 * Writes any buffered records and the end marker, then closes the underlying
+	 * stream. If an earlier write failed, the stream is only closed so the
+	 * partial output is not terminated like a valid file.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try (OutputStream stream = out) {
+			if (!failed) {
+				flushBlock();
+				CompactPatternCallFormat.writeVarLong(stream, 0); // End marker
+			}
+		}
+	}
+
+	private void flushBlock() throws IOException {
+		if (blockLength == 0) {
+			return;
+		}
+		try {
+			writeBlock();
+		} catch (IOException | RuntimeException e) {
+			failed = true;
+			throw e;
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		CompactPatternCallFormat.writeVarLong(out, blockLength);
+		for (int i = 0; i < blockLength; i += 8) {
+			int bits = 0;
+			for (int j = 0; j < 8 && i + j < blockLength; j++) {
+				if (block[i + j].isCalled()) {
+					bits |= 1 << j;
+				}
+			}
+			out.write(bits);
+		}
+		for (int i = 0; i < blockLength; i++) {
+			writeRecord(block[i]);
+			block[i] = null;
+		}
+		blockLength = 0;
+	}
+
+	private void writeRecord(PatternCall patternCall) throws IOException {
+		int id = patternCall.getId();
+		CompactPatternCallFormat.writeVarLong(out, CompactPatternCallFormat.zigZagEncode((long) id - previousId));
+		previousId = id;
+
+		String name = patternCall.getName();
+		Integer code = nameCodes.get(name);
+		if (code != null) {
+			CompactPatternCallFormat.writeVarLong(out, code + 1L);
+		} else {
+			CompactPatternCallFormat.writeVarLong(out, 0);
+			CompactPatternCallFormat.writeString(out, name);
+			if (nameCodes.size() < MAX_DICTIONARY_SIZE) {
+				nameCodes.put(name, nameCodes.size());
+			}
+		}
+
+		String patternFile = patternCall.getPatternFile();
+		if (patternFile == null) {
+			CompactPatternCallFormat.writeVarLong(out, 0);
+			CompactPatternCallFormat.writeString(out, null);
+			return;
+		}
+		int shared = CompactPatternCallFormat.sharedPrefixLength(previousPatternFile, patternFile);
+		CompactPatternCallFormat.writeVarLong(out, shared);
+		CompactPatternCallFormat.writeString(out, patternFile.substring(shared));
+		previousPatternFile = patternFile;
+	}
+}
@@ -1,12 +1,15 @@
 package com.assignment.patternmanager;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * Manages a collection of PatternCall objects and provides methods to perform
@@ -114,15 +117,14 @@ public class PatternManager {
 	}
 
 	/**
-	 * Stores the pattern calls to a file.
+	 * Stores the pattern calls to a UTF-8 encoded text file.
 	 *
 	 * @param filePath The path of the file to store the pattern calls.
 	 */
 	public void storePatternCallsToFile(String filePath) {
-		try (PrintWriter writer = new PrintWriter(filePath)) {
+		try (PrintWriter writer = new PrintWriter(filePath, StandardCharsets.UTF_8)) {
 			for (PatternCall patternCall : patternCalls) {
-				writer.println(patternCall.getId() + ", " + patternCall.getName() + ", " + patternCall.getPatternFile()
-						+ ", " + patternCall.isCalled());
+				writer.println(formatPatternCall(patternCall));
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -130,37 +132,64 @@ public class PatternManager {
 	}
 
 	/**
-	 * Reads the pattern calls from a file and populates the collection.
+	 * Reads the pattern calls from a UTF-8 encoded text file and populates the
+	 * collection. Malformed UTF-8 bytes are replaced with U+FFFD rather than
+	 * aborting the read.
 	 *
 	 * @param filePath The path of the file to read the pattern calls from.
 	 * @return
 	 */
 	public void readPatternCallsFromFile(String filePath) {
 		patternCalls.clear(); // Clear existing data
-		try (Scanner scanner = new Scanner(new File(filePath))) {
-			while (scanner.hasNextLine()) {
-				String line = scanner.nextLine();
-				String[] parts = line.split(", ");
-				if (parts.length == 4) {
-					try {
-						int id = Integer.parseInt(parts[0].trim());
-						String name = parts[1].trim();
-						String patternFile = parts[2].trim();
-						boolean called = Boolean.parseBoolean(parts[3].trim());
-						patternCalls.add(new PatternCall(id, name, patternFile, called));
-					} catch (NumberFormatException e) {
-			               System.err.println("Skipping line due to invalid pattern: " + line);
-
-					}
-				}else {
-                    // Skip line if format is invalid
-                    System.err.println("Skipping line due to invalid format: " + line);
-                }
+		try (BufferedReader reader = openTextFile(filePath)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				PatternCall patternCall = parsePatternCall(line);
+				if (patternCall != null) {
+					patternCalls.add(patternCall);
+				}
 			}
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+	}
+
+	/**
+	 * Stores the pattern calls to a file in the compact binary format described
+	 * in {@link CompactPatternCallFormat}.
+	 *
+	 * @param filePath The path of the file to store the pattern calls.
+	 * @param compress Whether to compress the encoded records as one deflate
+	 *                 stream.
+	 */
+	public void storePatternCallsToCompactFile(String filePath, boolean compress) {
+		try (CompactPatternCallWriter writer = new CompactPatternCallWriter(
+				new BufferedOutputStream(new FileOutputStream(filePath)), compress)) {
+			for (PatternCall patternCall : patternCalls) {
+				writer.write(patternCall);
+			}
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
+	}
 
+	/**
+	 * Reads the pattern calls from a file in the compact binary format and
+	 * populates the collection.
+	 *
+	 * @param filePath The path of the file to read the pattern calls from.
+	 */
+	public void readPatternCallsFromCompactFile(String filePath) {
+		patternCalls.clear(); // Clear existing data
+		try (CompactPatternCallReader reader = new CompactPatternCallReader(new FileInputStream(filePath))) {
+			PatternCall patternCall;
+			while ((patternCall = reader.read()) != null) {
+				patternCalls.add(patternCall);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 	}
 
 	/**
@@ -172,4 +201,54 @@ public class PatternManager {
 
 		return patternCalls;
 	}
+
+	/**
+	 * Formats a pattern call as a line of the text tuple format.
+	 *
+	 * @param patternCall The pattern call to format.
+	 * @return The tuple line in the form {@code id, name, path, called}.
+	 */
+	static String formatPatternCall(PatternCall patternCall) {
+		return patternCall.getId() + ", " + patternCall.getName() + ", " + patternCall.getPatternFile() + ", "
+				+ patternCall.isCalled();
+	}
+
+	/**
+	 * Opens a text tuple file for reading. Every reader of the text format goes
+	 * through here so that line breaks and malformed UTF-8 bytes are handled the
+	 * same way: lines end at {@code \n}, {@code \r} or {@code \r\n}, and
+	 * malformed bytes are replaced with U+FFFD.
+	 *
+	 * @param filePath The path of the text tuple file.
+	 * @return A reader over the file.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	static BufferedReader openTextFile(String filePath) throws IOException {
+		return new BufferedReader(new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parses a line of the text tuple format.
+	 *
+	 * @param line The tuple line in the form {@code id, name, path, called}.
+	 * @return The parsed PatternCall, or null if the line is invalid.
+	 */
+	static PatternCall parsePatternCall(String line) {
+		String[] parts = line.split(", ");
+		if (parts.length == 4) {
+			try {
+				int id = Integer.parseInt(parts[0].trim());
+				String name = parts[1].trim();
+				String patternFile = parts[2].trim();
+				boolean called = Boolean.parseBoolean(parts[3].trim());
+				return new PatternCall(id, name, patternFile, called);
+			} catch (NumberFormatException e) {
+				System.err.println("Skipping line due to invalid pattern: " + line);
+			}
+		} else {
+			// Skip line if format is invalid
+			System.err.println("Skipping line due to invalid format: " + line);
+		}
+		return null;
+	}
 }
\ No newline at end of file
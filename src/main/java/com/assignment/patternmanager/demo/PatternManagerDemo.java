@@ -1,6 +1,7 @@
 package com.assignment.patternmanager.demo;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Scanner;
 
@@ -42,7 +43,7 @@ public class PatternManagerDemo {
      * @param filePath       The file path to read tuples from.
      */
     private static void readInitialTuples(PatternManager patternManager, String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split(",");
@@ -192,7 +193,7 @@ public class PatternManagerDemo {
      * @param filePath       The file path to write the tuples to.
      */
     private static void writeTuplesToFile(PatternManager patternManager, String filePath) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, StandardCharsets.UTF_8))) {
             List<PatternCall> patternCalls = patternManager.getAllPatternCalls();
             for (PatternCall patternCall : patternCalls) {
                 writer.println(patternCall.getId() + ", " + patternCall.getName() + ", "
@@ -0,0 +1,301 @@
+package com.assignment.patternmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompactPatternCallFormatTest {
+	private static final String TEST_RESOURCE_FOLDER = "src/test/resources/";
+
+	@TempDir
+	File tempDir;
+
+	private List<PatternCall> patternCalls;
+
+	@BeforeEach
+	void setUp() {
+		patternCalls = new ArrayList<>();
+		for (int i = 1; i <= 1000; i++) {
+			patternCalls.add(new PatternCall(i, "pattern" + (i % 7), "src/patterns/Pattern" + i + ".pat", i % 3 == 0));
+		}
+	}
+
+	@Test
+	void testRoundTripUncompressed() throws IOException {
+		assertEquals(patternCalls, readAll(writeAll(patternCalls, false)));
+	}
+
+	@Test
+	void testRoundTripCompressed() throws IOException {
+		assertEquals(patternCalls, readAll(writeAll(patternCalls, true)));
+	}
+
+	@Test
+	void testCompressFlagCompressesBody() throws IOException {
+		byte[] uncompressed = writeAll(patternCalls, false);
+		byte[] compressed = writeAll(patternCalls, true);
+		int flags = CompactPatternCallFormat.MAGIC.length + 1;
+
+		assertEquals(0, uncompressed[flags]);
+		assertEquals(CompactPatternCallFormat.FLAG_DEFLATE, compressed[flags]);
+		assertTrue(compressed.length < uncompressed.length / 2);
+	}
+
+	@Test
+	void testRoundTripEmpty() throws IOException {
+		assertTrue(readAll(writeAll(List.of(), true)).isEmpty());
+	}
+
+	@Test
+	void testRoundTripUnorderedIdsAndUnicodePaths() throws IOException {
+		List<PatternCall> calls = List.of(new PatternCall(Integer.MAX_VALUE, "a", "src/\uD83D\uDE00.pat", true),
+				new PatternCall(Integer.MIN_VALUE, "b", "src/\uD83D\uDE01.pat", false),
+				new PatternCall(-5, "a", "", true), new PatternCall(0, "", "src/x.pat", false));
+		assertEquals(calls, readAll(writeAll(calls, false)));
+	}
+
+	@Test
+	void testCompactIsSmallerThanText() throws IOException {
+		PatternManager patternManager = new PatternManager();
+		patternCalls.forEach(p -> patternManager.addPatternCall(p.getId(), p.getName(), p.getPatternFile(), p.isCalled()));
+		File text = new File(tempDir, "tuples.txt");
+		File compact = new File(tempDir, "tuples.pmc");
+		patternManager.storePatternCallsToFile(text.getPath());
+		patternManager.storePatternCallsToCompactFile(compact.getPath(), false);
+
+		assertTrue(compact.length() < text.length() / 2);
+
+		patternManager.readPatternCallsFromCompactFile(compact.getPath());
+		assertEquals(patternCalls, patternManager.getAllPatternCalls());
+	}
+
+	@Test
+	void testRoundTripNullNameAndPath() {
+		List<PatternCall> calls = List.of(new PatternCall(1, "pattern1", "src/patterns/A.pat", true),
+				new PatternCall(2, null, "src/patterns/B.pat", false), new PatternCall(3, "pattern1", null, true),
+				new PatternCall(4, null, "src/patterns/C.pat", false), new PatternCall(5, null, null, true));
+		PatternManager patternManager = new PatternManager();
+		calls.forEach(p -> patternManager.addPatternCall(p.getId(), p.getName(), p.getPatternFile(), p.isCalled()));
+		File compact = new File(tempDir, "nulls.pmc");
+
+		patternManager.storePatternCallsToCompactFile(compact.getPath(), true);
+		patternManager.readPatternCallsFromCompactFile(compact.getPath());
+
+		assertEquals(calls, patternManager.getAllPatternCalls());
+	}
+
+	@Test
+	void testConvertWritesNullFieldsLikeTextStore() throws IOException {
+		PatternManager patternManager = new PatternManager();
+		patternManager.addPatternCall(1, null, "src/patterns/A.pat", true);
+		patternManager.addPatternCall(2, "pattern2", null, false);
+		File compact = new File(tempDir, "nulls.pmc");
+		File converted = new File(tempDir, "nulls_converted.txt");
+		File stored = new File(tempDir, "nulls_stored.txt");
+
+		patternManager.storePatternCallsToCompactFile(compact.getPath(), false);
+		CompactPatternCallFormat.compactToText(compact.getPath(), converted.getPath());
+		patternManager.storePatternCallsToFile(stored.getPath());
+
+		assertEquals(Files.readAllLines(stored.toPath()), Files.readAllLines(converted.toPath()));
+	}
+
+	@Test
+	void testConvertTextToCompactAndBack() throws IOException {
+		File compact = new File(tempDir, "multiple_patterns.pmc");
+		File text = new File(tempDir, "multiple_patterns.txt");
+		CompactPatternCallFormat.textToCompact(TEST_RESOURCE_FOLDER + "multiple_patterns.txt", compact.getPath(), true);
+		CompactPatternCallFormat.compactToText(compact.getPath(), text.getPath());
+
+		assertEquals(Files.readAllLines(new File(TEST_RESOURCE_FOLDER + "multiple_patterns.txt").toPath()),
+				Files.readAllLines(text.toPath()));
+	}
+
+	@Test
+	void testConvertRoundTripsNonAsciiTextFile() throws IOException {
+		List<PatternCall> calls = List.of(new PatternCall(1, "caf\u00E9", "src/\u00FC.pat", true),
+				new PatternCall(2, "b", "src/b.pat", false),
+				new PatternCall(3, "\u65E5\u672C", "src/\uD83D\uDE00/\u00E9.pat", true));
+		PatternManager patternManager = new PatternManager();
+		calls.forEach(p -> patternManager.addPatternCall(p.getId(), p.getName(), p.getPatternFile(), p.isCalled()));
+		File source = new File(tempDir, "non_ascii.txt");
+		File compact = new File(tempDir, "non_ascii.pmc");
+		File text = new File(tempDir, "non_ascii_converted.txt");
+
+		patternManager.storePatternCallsToFile(source.getPath());
+		CompactPatternCallFormat.textToCompact(source.getPath(), compact.getPath(), true);
+		CompactPatternCallFormat.compactToText(compact.getPath(), text.getPath());
+		patternManager.readPatternCallsFromFile(text.getPath());
+
+		assertEquals(calls, patternManager.getAllPatternCalls());
+	}
+
+	@Test
+	void testConvertMatchesTextReaderOnMalformedUtf8() throws IOException {
+		byte[] content = "1, pattern1, path1, true\n2, caf\u00E9, path2, false\n3, pattern3, path3, true\n"
+				.getBytes(StandardCharsets.ISO_8859_1);
+		List<PatternCall> direct = readTextDirectlyAndViaCompact(content);
+
+		assertEquals(3, direct.size());
+		assertEquals("caf\uFFFD", direct.get(1).getName());
+	}
+
+	@Test
+	void testConvertMatchesTextReaderOnUnicodeLineSeparators() throws IOException {
+		byte[] content = "1, pattern1, src/a\u0085b.pat, true\n2, pattern2, src/\u2028.pat, false\n"
+				.getBytes(StandardCharsets.UTF_8);
+		List<PatternCall> direct = readTextDirectlyAndViaCompact(content);
+
+		assertEquals(List.of(new PatternCall(1, "pattern1", "src/a\u0085b.pat", true),
+				new PatternCall(2, "pattern2", "src/\u2028.pat", false)), direct);
+	}
+
+	@Test
+	void testConvertSkipsInvalidLines() throws IOException {
+		File source = new File(tempDir, "invalid_order.txt");
+		try (PrintWriter writer = new PrintWriter(new FileWriter(source))) {
+			writer.println("pattern1, path1, true, 1"); // Invalid order
+			writer.println("2, pattern2, path2, false");
+			writer.println("3, pattern3, path3, true");
+		}
+		File compact = new File(tempDir, "invalid_order.pmc");
+		CompactPatternCallFormat.textToCompact(source.getPath(), compact.getPath(), false);
+
+		PatternManager patternManager = new PatternManager();
+		patternManager.readPatternCallsFromCompactFile(compact.getPath());
+		assertEquals(List.of(new PatternCall(2, "pattern2", "path2", false), new PatternCall(3, "pattern3", "path3", true)),
+				patternManager.getAllPatternCalls());
+	}
+
+	@Test
+	void testReadRejectsInvalidHeader() {
+		byte[] data = "1, pattern1, path1, true".getBytes();
+		assertThrows(IOException.class, () -> new CompactPatternCallReader(new ByteArrayInputStream(data)));
+	}
+
+	@Test
+	void testWriterClosesStreamWhenHeaderFails() {
+		boolean[] closed = new boolean[1];
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Disk full");
+			}
+
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		assertThrows(IOException.class, () -> new CompactPatternCallWriter(failing, false));
+		assertTrue(closed[0]);
+	}
+
+	@Test
+	void testWriterStopsAfterFailedBlock() throws IOException {
+		boolean[] failing = { false };
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (failing[0]) {
+					throw new IOException("Disk full");
+				}
+				captured.write(b, off, len);
+			}
+		};
+		CompactPatternCallWriter writer = new CompactPatternCallWriter(out, false);
+		failing[0] = true;
+
+		// Distinct long paths make the first block overflow the writer's buffer.
+		IOException failure = null;
+		for (int i = 0; i < CompactPatternCallFormat.BLOCK_SIZE && failure == null; i++) {
+			try {
+				writer.write(new PatternCall(i, "pattern", i + "/" + "x".repeat(100) + ".pat", true));
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		assertNotNull(failure);
+
+		failing[0] = false;
+		assertThrows(IOException.class, () -> writer.write(new PatternCall(0, "pattern", "path", true)));
+		writer.close();
+
+		assertThrows(IOException.class, () -> readAll(captured.toByteArray()));
+	}
+
+	@Test
+	void testReadRejectsTruncatedStream() throws IOException {
+		byte[] data = writeAll(patternCalls, false);
+		byte[] truncated = Arrays.copyOf(data, data.length / 2);
+		assertThrows(EOFException.class, () -> readAll(truncated));
+	}
+
+	@Test
+	void testReadRejectsTruncatedCompressedStream() throws IOException {
+		byte[] data = writeAll(patternCalls, true);
+		byte[] truncated = Arrays.copyOf(data, data.length / 2);
+		assertThrows(EOFException.class, () -> readAll(truncated));
+	}
+
+	/**
+	 * Loads the given text file content through readPatternCallsFromFile and
+	 * through textToCompact, asserts that both agree and returns the records.
+	 */
+	private List<PatternCall> readTextDirectlyAndViaCompact(byte[] content) throws IOException {
+		File source = new File(tempDir, "source.txt");
+		File compact = new File(tempDir, "source.pmc");
+		Files.write(source.toPath(), content);
+
+		PatternManager patternManager = new PatternManager();
+		patternManager.readPatternCallsFromFile(source.getPath());
+		List<PatternCall> direct = new ArrayList<>(patternManager.getAllPatternCalls());
+		CompactPatternCallFormat.textToCompact(source.getPath(), compact.getPath(), false);
+		patternManager.readPatternCallsFromCompactFile(compact.getPath());
+
+		assertEquals(direct, patternManager.getAllPatternCalls());
+		return direct;
+	}
+
+	private byte[] writeAll(List<PatternCall> calls, boolean compress) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CompactPatternCallWriter writer = new CompactPatternCallWriter(out, compress)) {
+			for (PatternCall patternCall : calls) {
+				writer.write(patternCall);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private List<PatternCall> readAll(byte[] data) throws IOException {
+		List<PatternCall> result = new ArrayList<>();
+		try (CompactPatternCallReader reader = new CompactPatternCallReader(new ByteArrayInputStream(data))) {
+			PatternCall patternCall;
+			while ((patternCall = reader.read()) != null) {
+				result.add(patternCall);
+			}
+		}
+		return result;
+	}
+}